@@ -1,6 +1,7 @@
 package com.litequery.api;
 
 import com.litequery.builder.QueryBuilder;
+import com.litequery.source.ConcurrentQuerySource;
 import java.util.List;
 
 /**
@@ -12,6 +13,14 @@ public class LiteQuery {
     public static <T> QueryBuilder<T> from(List<T> list) {
         return new QueryBuilder<>(list);
     }
+
+    /** 以併發資料來源目前的快照建立查詢，查詢期間不受寫入影響 */
+    public static <T> QueryBuilder<T> from(ConcurrentQuerySource<T> source) {
+        if (source == null) {
+            throw new IllegalArgumentException("資料來源不能為空");
+        }
+        return source.query();
+    }
 }
 
 
@@ -0,0 +1,289 @@
+package com.litequery.source;
+
+import com.litequery.builder.QueryBuilder;
+import com.litequery.output.ReportTable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * @Author: Eton.Lin
+ * @Description: 支援多讀者併發查詢的資料來源（分塊寫入時複製 + 版本快照）
+ *               寫入端以鎖序列化，只複製受影響的區塊；讀取端不加鎖，以 O(1) 取得一致的快照
+ * @Date: 2026/10/19 上午 10:12
+*/
+public class ConcurrentQuerySource<T> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final int chunkSize;
+    private final Object writeLock = new Object();
+    private volatile Snapshot<T> current;
+
+    public ConcurrentQuerySource() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ConcurrentQuerySource(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("區塊大小必須大於 0");
+        }
+        this.chunkSize = chunkSize;
+        this.current = new Snapshot<>(new Object[0][], 0, chunkSize, 0L);
+    }
+
+    public ConcurrentQuerySource(Collection<? extends T> initial) {
+        this(initial, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ConcurrentQuerySource(Collection<? extends T> initial, int chunkSize) {
+        this(chunkSize);
+        if (initial == null) {
+            throw new IllegalArgumentException("原始列表不能為空");
+        }
+        this.current = build(initial.toArray(), 1L);
+    }
+
+    // ---- 讀取端：無鎖 ----
+
+    /** 取得目前版本的唯讀快照，不複製資料 */
+    public Snapshot<T> snapshot() {
+        return current;
+    }
+
+    /** 以目前快照建立查詢 */
+    public QueryBuilder<T> query() {
+        return new QueryBuilder<>(current);
+    }
+
+    public long version() {
+        return current.version();
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * 在同一份快照上批次執行多個查詢，使用虛擬執行緒分派
+     */
+    public List<ReportTable> executeAll(List<? extends Function<QueryBuilder<T>, QueryBuilder<T>>> queries) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executeAll(queries, executor);
+        }
+    }
+
+    /**
+     * 在同一份快照上批次執行多個查詢，由呼叫端提供執行器；結果順序與傳入的查詢順序一致
+     */
+    public List<ReportTable> executeAll(List<? extends Function<QueryBuilder<T>, QueryBuilder<T>>> queries,
+                                        ExecutorService executor) {
+        if (queries == null || executor == null) {
+            throw new IllegalArgumentException("查詢列表與執行器不能為空");
+        }
+        Snapshot<T> snapshot = current;
+
+        List<Future<ReportTable>> futures = new ArrayList<>(queries.size());
+        for (Function<QueryBuilder<T>, QueryBuilder<T>> query : queries) {
+            futures.add(executor.submit(() -> query.apply(new QueryBuilder<>(snapshot)).execute()));
+        }
+
+        List<ReportTable> results = new ArrayList<>(futures.size());
+        for (Future<ReportTable> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new CompletionException("批次查詢被中斷", e);
+            } catch (ExecutionException e) {
+                futures.forEach(f -> f.cancel(true));
+                throw new CompletionException("批次查詢執行失敗", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    // ---- 寫入端：以鎖序列化，發佈新版本 ----
+
+    public void add(T element) {
+        synchronized (writeLock) {
+            Snapshot<T> snap = current;
+            int size = snap.size;
+            Object[][] chunks;
+            int chunkIndex = size / chunkSize;
+            int offset = size % chunkSize;
+
+            if (offset == 0) {
+                // 最後一個區塊已滿，新增區塊
+                chunks = Arrays.copyOf(snap.chunks, chunkIndex + 1);
+                chunks[chunkIndex] = new Object[]{element};
+            } else {
+                chunks = snap.chunks.clone();
+                Object[] last = Arrays.copyOf(chunks[chunkIndex], offset + 1);
+                last[offset] = element;
+                chunks[chunkIndex] = last;
+            }
+            current = new Snapshot<>(chunks, size + 1, chunkSize, snap.version + 1);
+        }
+    }
+
+    public void addAll(Collection<? extends T> elements) {
+        if (elements == null || elements.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            Snapshot<T> snap = current;
+            Object[] added = elements.toArray();
+            int fullChunks = snap.size / chunkSize;
+            int tailStart = fullChunks * chunkSize;
+
+            // 保留已滿的區塊，只重建最後一個未滿區塊之後的部分
+            Object[] tail = new Object[snap.size - tailStart + added.length];
+            for (int i = tailStart; i < snap.size; i++) {
+                tail[i - tailStart] = snap.get(i);
+            }
+            System.arraycopy(added, 0, tail, snap.size - tailStart, added.length);
+            current = rechunk(snap, fullChunks, tail);
+        }
+    }
+
+    public T set(int index, T element) {
+        synchronized (writeLock) {
+            Snapshot<T> snap = current;
+            Objects.checkIndex(index, snap.size);
+            int chunkIndex = index / chunkSize;
+
+            Object[][] chunks = snap.chunks.clone();
+            Object[] chunk = chunks[chunkIndex].clone();
+            @SuppressWarnings("unchecked")
+            T previous = (T) chunk[index % chunkSize];
+            chunk[index % chunkSize] = element;
+            chunks[chunkIndex] = chunk;
+
+            current = new Snapshot<>(chunks, snap.size, chunkSize, snap.version + 1);
+            return previous;
+        }
+    }
+
+    public T remove(int index) {
+        synchronized (writeLock) {
+            Snapshot<T> snap = current;
+            Objects.checkIndex(index, snap.size);
+            T previous = snap.get(index);
+
+            // 被移除位置之前的區塊保持共用，之後的元素重新分塊
+            int chunkIndex = index / chunkSize;
+            int rebuildStart = chunkIndex * chunkSize;
+            Object[] rest = new Object[snap.size - rebuildStart - 1];
+            int pos = 0;
+            for (int i = rebuildStart; i < snap.size; i++) {
+                if (i != index) {
+                    rest[pos++] = snap.get(i);
+                }
+            }
+            current = rechunk(snap, chunkIndex, rest);
+            return previous;
+        }
+    }
+
+    public boolean removeIf(Predicate<? super T> filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("條件不能為空");
+        }
+        synchronized (writeLock) {
+            Snapshot<T> snap = current;
+            List<Object> kept = new ArrayList<>(snap.size);
+            for (T element : snap) {
+                if (!filter.test(element)) {
+                    kept.add(element);
+                }
+            }
+            if (kept.size() == snap.size) {
+                return false;
+            }
+            current = build(kept.toArray(), snap.version + 1);
+            return true;
+        }
+    }
+
+    public void replaceAll(Collection<? extends T> elements) {
+        if (elements == null) {
+            throw new IllegalArgumentException("原始列表不能為空");
+        }
+        synchronized (writeLock) {
+            current = build(elements.toArray(), current.version + 1);
+        }
+    }
+
+    public void clear() {
+        synchronized (writeLock) {
+            current = new Snapshot<>(new Object[0][], 0, chunkSize, current.version + 1);
+        }
+    }
+
+    private Snapshot<T> rechunk(Snapshot<T> snap, int keptChunks, Object[] rest) {
+        int restChunks = (rest.length + chunkSize - 1) / chunkSize;
+        Object[][] chunks = Arrays.copyOf(snap.chunks, keptChunks + restChunks);
+        for (int c = 0; c < restChunks; c++) {
+            int from = c * chunkSize;
+            chunks[keptChunks + c] = Arrays.copyOfRange(rest, from, Math.min(from + chunkSize, rest.length));
+        }
+        return new Snapshot<>(chunks, keptChunks * chunkSize + rest.length, chunkSize, snap.version + 1);
+    }
+
+    private Snapshot<T> build(Object[] elements, long version) {
+        int count = (elements.length + chunkSize - 1) / chunkSize;
+        Object[][] chunks = new Object[count][];
+        for (int c = 0; c < count; c++) {
+            int from = c * chunkSize;
+            chunks[c] = Arrays.copyOfRange(elements, from, Math.min(from + chunkSize, elements.length));
+        }
+        return new Snapshot<>(chunks, elements.length, chunkSize, version);
+    }
+
+    /**
+     * 某一版本的不可變視圖；區塊發佈後不再被修改，可安全地跨執行緒共用
+     */
+    public static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[][] chunks;
+        private final int size;
+        private final int chunkSize;
+        private final long version;
+
+        private Snapshot(Object[][] chunks, int size, int chunkSize, long version) {
+            this.chunks = chunks;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.version = version;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            return (T) chunks[index / chunkSize][index % chunkSize];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
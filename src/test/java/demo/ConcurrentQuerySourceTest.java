@@ -0,0 +1,151 @@
+package demo;
+
+import com.litequery.api.LiteQuery;
+import com.litequery.builder.QueryBuilder;
+import com.litequery.example.Employee;
+import com.litequery.output.ReportTable;
+import com.litequery.source.ConcurrentQuerySource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.litequery.function.Aggregations.count;
+import static com.litequery.function.Aggregations.sum;
+import static com.litequery.function.Columns.col;
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+    @Author: Eton.Lin
+    @Description: ConcurrentQuerySource Test Cases
+    @Date: 2026/10/19 上午 10:40
+*/
+public class ConcurrentQuerySourceTest {
+
+    private ConcurrentQuerySource<Employee> source;
+
+    @BeforeEach
+    public void setUp() {
+        // Small chunk size so that writes cross chunk boundaries
+        source = new ConcurrentQuerySource<>(List.of(
+                new Employee(1, 10, 60000),
+                new Employee(2, 10, 55000),
+                new Employee(3, 20, 70000),
+                new Employee(4, 20, 75000)
+        ), 3);
+    }
+
+    @Test
+    public void testQueryFromSource() {
+        ReportTable result = LiteQuery.from(source)
+                .where(e -> e.getSalary() >= 70000)
+                .select(col("Id", Employee::getId))
+                .execute();
+
+        assertEquals(2, result.getRows().size());
+    }
+
+    @Test
+    public void testSnapshotIsolatedFromWrites() {
+        List<Employee> snapshot = source.snapshot();
+        long version = source.version();
+
+        source.add(new Employee(5, 30, 80000));
+        source.set(0, new Employee(1, 10, 99000));
+        source.remove(1);
+
+        // The old snapshot still sees the original data
+        assertEquals(4, snapshot.size());
+        assertEquals(60000, snapshot.get(0).getSalary());
+        assertEquals(2, snapshot.get(1).getId());
+
+        // The new snapshot reflects every write
+        List<Employee> latest = source.snapshot();
+        assertEquals(4, latest.size());
+        assertEquals(99000, latest.get(0).getSalary());
+        assertEquals(List.of(1, 3, 4, 5), latest.stream().map(Employee::getId).toList());
+        assertEquals(version + 3, source.version());
+    }
+
+    @Test
+    public void testBulkWrites() {
+        source.addAll(IntStream.rangeClosed(5, 10)
+                .mapToObj(i -> new Employee(i, 30, 1000 * i))
+                .toList());
+        assertEquals(10, source.size());
+        assertEquals(IntStream.rangeClosed(1, 10).boxed().toList(),
+                source.snapshot().stream().map(Employee::getId).toList());
+
+        assertTrue(source.removeIf(e -> e.getDepartmentId() == 30));
+        assertFalse(source.removeIf(e -> e.getDepartmentId() == 30));
+        assertEquals(4, source.size());
+
+        source.clear();
+        assertTrue(source.snapshot().isEmpty());
+    }
+
+    @Test
+    public void testSnapshotIsReadOnly() {
+        List<Employee> snapshot = source.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Employee(5, 30, 80000)));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(4));
+    }
+
+    @Test
+    public void testExecuteAll() {
+        List<Function<QueryBuilder<Employee>, QueryBuilder<Employee>>> queries = List.of(
+                q -> q.select(sum(Employee::getSalary).as("Total"), count().as("Count")),
+                q -> q.where(e -> e.getDepartmentId() == 10)
+                        .select(count().as("Count"))
+        );
+
+        List<ReportTable> results = source.executeAll(queries);
+
+        assertEquals(2, results.size());
+        assertEquals(260000.0, ((Number) results.get(0).getRows().getFirst().get("Total")).doubleValue(), 0.0001);
+        assertEquals(4, ((Number) results.get(0).getRows().getFirst().get("Count")).intValue());
+        assertEquals(2, ((Number) results.get(1).getRows().getFirst().get("Count")).intValue());
+    }
+
+    @Test
+    public void testConcurrentReadersDuringWrites() throws InterruptedException {
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Thread writer = Thread.ofVirtual().start(() -> {
+            for (int i = 5; i < 2000; i++) {
+                source.add(new Employee(i, 10 * (i % 3), 1000));
+                if (i % 7 == 0) {
+                    source.remove(0);
+                }
+            }
+        });
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 16; r++) {
+            readers.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        List<Employee> snapshot = source.snapshot();
+                        ReportTable result = LiteQuery.from(source)
+                                .select(count().as("Count"))
+                                .execute();
+                        // Every element of a snapshot must be readable
+                        snapshot.forEach(Employee::getId);
+                        assertNotNull(result.getRows().getFirst().get("Count"));
+                    } catch (Throwable t) {
+                        failed.set(true);
+                    }
+                }
+            }));
+        }
+
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertFalse(failed.get());
+    }
+}